@@ -13,7 +13,7 @@ public class DeletionTimer extends Timer {
     public DeletionTimer(RipRouter ripRouter, RoutingTableEntry entry) {
         this.ripRouter = ripRouter;
         this.entry = entry;
-        this.schedule(new DeleteEntry(), RipRouter.DELETION_PERIOD * 1000);
+        this.schedule(new DeleteEntry(), ripRouter.getDeletionPeriod() * 1000);
     }
 
     /**
@@ -21,8 +21,10 @@ public class DeletionTimer extends Timer {
      */
     private class DeleteEntry extends TimerTask {
         public void run() {
-            ripRouter.getRoutingTable().getEntries().remove(entry);
-            ripRouter.sendUpdate(RipRouter.RESPONSE);
+            synchronized(ripRouter) {
+                ripRouter.getRoutingTable().getEntries().remove(entry);
+                ripRouter.sendUpdate(RipRouter.RESPONSE);
+            }
         }
     }
 }
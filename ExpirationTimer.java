@@ -14,7 +14,7 @@ public class ExpirationTimer extends Timer {
     public ExpirationTimer(RipRouter ripRouter, RoutingTableEntry entry) {
         this.ripRouter = ripRouter;
         this.timeredEntry = entry;
-        this.schedule(new ExpireEntry(), RipRouter.EXPIRATION_PERIOD * 1000);
+        this.schedule(new ExpireEntry(), ripRouter.getExpirationPeriod() * 1000);
     }
 
     /**
@@ -23,13 +23,16 @@ public class ExpirationTimer extends Timer {
      */
     private class ExpireEntry extends TimerTask {
         public void run() {
-            for(RoutingTableEntry entry : ripRouter.getRoutingTable().getEntries()) {
-                if(Arrays.equals(entry.nextHop, timeredEntry.destination)) {
-                    entry.metric = RipRouter.INF;
+            synchronized(ripRouter) {
+                for(RoutingTableEntry entry : ripRouter.getRoutingTable().getEntries()) {
+                    if(Arrays.equals(entry.nextHop, timeredEntry.destination)
+                            && !entry.staticRoute) {
+                        entry.metric = RipRouter.INF;
+                    }
                 }
+                timeredEntry.timer = new DeletionTimer(ripRouter, timeredEntry);
+                ripRouter.sendUpdate(RipRouter.RESPONSE);
             }
-            timeredEntry.timer = new DeletionTimer(ripRouter, timeredEntry);
-            ripRouter.sendUpdate(RipRouter.RESPONSE);
         }
     }
 }
@@ -8,22 +8,47 @@ import java.util.TimerTask;
  */
 public class RegularUpdate {
     private RipRouter ripRouter;
+    private Timer timer;
 
     public RegularUpdate(RipRouter ripRouter) {
         this.ripRouter = ripRouter;
-        Timer timer = new Timer();
-        timer.scheduleAtFixedRate(new SendUpdate(), RipRouter.UPDATE_PERIOD * 1000,
-                RipRouter.UPDATE_PERIOD * 1000);
+        timer = new Timer();
+        timer.scheduleAtFixedRate(new SendUpdate(), ripRouter.getUpdatePeriod() * 1000,
+                ripRouter.getUpdatePeriod() * 1000);
+    }
+
+    /**
+     * Stop sending regular updates.
+     */
+    public void cancel() {
+        timer.cancel();
     }
 
     /**
      *  The task of sending the routing table to the neighbours and displaying
-     *  the routing table.
+     *  the routing table and, once any route has been turned away, the route
+     *  limit counters.
      */
     private class SendUpdate extends TimerTask {
         public void run() {
-            ripRouter.sendUpdate(RipRouter.RESPONSE);
-            System.out.println(ripRouter.getRoutingTable());
+            synchronized(ripRouter) {
+                ripRouter.sendUpdate(RipRouter.RESPONSE);
+                RoutingTable routingTable = ripRouter.getRoutingTable();
+                System.out.println(routingTable);
+                long prefixLimitRejections = ripRouter.getPrefixLimitRejections();
+                if(prefixLimitRejections > 0 || routingTable.getRejectedEntries() > 0
+                        || routingTable.getEvictedEntries() > 0) {
+                    System.out.println("Routes: "
+                            + routingTable.getEntries().size() + "/"
+                            + (routingTable.getMaxEntries() > 0
+                                    ? routingTable.getMaxEntries() : "unlimited")
+                            + ", rejected over prefix limits: " + prefixLimitRejections
+                            + ", rejected by a full table: "
+                            + routingTable.getRejectedEntries()
+                            + ", evicted: " + routingTable.getEvictedEntries());
+                    System.out.println();
+                }
+            }
         }
     }
 }
@@ -1,10 +1,16 @@
+import java.io.IOException;
 import java.net.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * An RIP implementation.
+ * An RIP implementation. Each interface has its own socket and listener, and
+ * the updates from all the listeners are applied to a single routing table by
+ * a RouteComputation thread.
  *
  * @author Daichi Mae
  */
@@ -21,42 +27,332 @@ public class RipRouter {
 
     private List<RoutingTableEntry> neighbors;
 
+    private List<RouterInterface> interfaces;
+    private RouteComputation routeComputation = null;
+
+    // static routes from the configuration keyed by destination
+    private Map<Integer, RoutingTableEntry> staticRoutes;
+
     public static final int UPDATE_PERIOD = 1;
     public static final int EXPIRATION_PERIOD = 180;
     public static final int DELETION_PERIOD = 120;
 
-    private DatagramSocket socket;
+    private int updatePeriod = UPDATE_PERIOD;
+    private int expirationPeriod = EXPIRATION_PERIOD;
+    private int deletionPeriod = DELETION_PERIOD;
+
     private final int PORT = 520;
 
+    // per-neighbor limits on learned routes keyed by neighbor, 0 means no limit
+    private Map<Integer, Integer> prefixLimits = new HashMap<>();
+    private int defaultPrefixLimit = 0;
+    private long prefixLimitRejections = 0;
+
+    private RegularUpdate regularUpdate = null;
+    private boolean started = false;
+
     public RipRouter() {
         try {
             localHostAddress = Inet4Address.getLocalHost().getAddress();
         } catch(UnknownHostException e) {
             e.printStackTrace();
         }
-        try {
-            socket = new DatagramSocket(PORT);
-        } catch(SocketException e) {
-            e.printStackTrace();
-        }
-        neighbors = new ArrayList<>();
+        neighbors = new CopyOnWriteArrayList<>();
+        interfaces = new CopyOnWriteArrayList<>();
+        staticRoutes = new HashMap<>();
         routingTable = new RoutingTable();
     }
 
     /**
      *  Start the router.
+     *
+     * @throws IOException if an interface cannot be bound
      */
-    public void start() {
+    public synchronized void start() throws IOException {
+        getDefaultInterface();
+        openInterfaces(interfaces);
+        routeComputation = new RouteComputation(this);
+        routeComputation.start();
+        for(RouterInterface routerInterface : interfaces) {
+            startListener(routerInterface);
+        }
+        started = true;
         setTimers();
-        new UpdateListener(this).start();
-        new RegularUpdate(this);
+        regularUpdate = new RegularUpdate(this);
         System.out.println(routingTable);
         sendRequest();
     }
 
     /**
-     * Create an entry of a neighbor in the table and put the neighbor information
-     * in the list for a future reference.
+     * Bind interfaces. If any of them cannot be bound, the ones already bound
+     * are closed again.
+     *
+     * @param routerInterfaces the interfaces to be bound
+     * @throws IOException if an interface cannot be bound
+     */
+    private void openInterfaces(List<RouterInterface> routerInterfaces)
+            throws IOException {
+        List<RouterInterface> opened = new ArrayList<>();
+        try {
+            for(RouterInterface routerInterface : routerInterfaces) {
+                routerInterface.open(PORT);
+                opened.add(routerInterface);
+            }
+        } catch(IOException e) {
+            for(RouterInterface routerInterface : opened) {
+                routerInterface.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Close the sockets of the removed interfaces and bind the added ones.
+     * The old sockets go first since the wildcard 0.0.0.0 holds the port on
+     * every local address. If an added interface cannot be bound, the removed
+     * interfaces are bound again and the router keeps running as before.
+     *
+     * @param removedInterfaces the interfaces no longer in the configuration
+     * @param addedInterfaces the interfaces new in the configuration
+     * @throws IOException if an added interface cannot be bound
+     */
+    private void rebindInterfaces(List<RouterInterface> removedInterfaces,
+                                  List<RouterInterface> addedInterfaces)
+            throws IOException {
+        for(RouterInterface routerInterface : removedInterfaces) {
+            routerInterface.close();
+        }
+        try {
+            openInterfaces(addedInterfaces);
+        } catch(IOException e) {
+            for(RouterInterface routerInterface : removedInterfaces) {
+                try {
+                    routerInterface.open(PORT);
+                    startListener(routerInterface);
+                } catch(IOException reopenFailure) {
+                    System.err.println(reopenFailure.getMessage());
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Start the listener of a bound interface.
+     *
+     * @param routerInterface the interface to listen on
+     */
+    private void startListener(RouterInterface routerInterface) {
+        new UpdateListener(routerInterface, routeComputation).start();
+    }
+
+    /**
+     * Apply a configuration to this router. Before the router is started this
+     * simply builds the interfaces, the neighbor list and the routing table.
+     * Once the router is running, the configuration is compared against the
+     * live state and only the interfaces, neighbors and static routes that were
+     * added, removed or changed are touched. Interfaces are rebound first,
+     * and if a new one cannot be bound the configuration is rejected without
+     * changing anything.
+     *
+     * @param configuration the configuration to apply
+     * @throws IOException if a new interface cannot be bound
+     */
+    public synchronized void configure(RouterConfiguration configuration)
+            throws IOException {
+        List<RouterInterface> removedInterfaces = new ArrayList<>(interfaces);
+        List<RouterInterface> addedInterfaces = new ArrayList<>();
+        for(byte[] address : configuration.getInterfaces()) {
+            RouterInterface routerInterface = getInterface(address);
+            if(routerInterface == null) {
+                addedInterfaces.add(new RouterInterface(address));
+            } else {
+                removedInterfaces.remove(routerInterface);
+            }
+        }
+        // an interface is only used for sending once its socket is open
+        if(started)
+            rebindInterfaces(removedInterfaces, addedInterfaces);
+        interfaces.addAll(addedInterfaces);
+        for(RouterInterface routerInterface : interfaces) {
+            routerInterface.setShared(configuration.isSharedInterface(
+                    routerInterface.getAddress()));
+        }
+
+        expirationPeriod = configuration.getExpirationPeriod();
+        deletionPeriod = configuration.getDeletionPeriod();
+        if(updatePeriod != configuration.getUpdatePeriod()) {
+            updatePeriod = configuration.getUpdatePeriod();
+            if(regularUpdate != null) {
+                regularUpdate.cancel();
+                regularUpdate = new RegularUpdate(this);
+            }
+        }
+
+        // static routes go first so that a destination that stops being a
+        // static route is an ordinary stale entry by the time a neighbor with
+        // the same address is added, and a neighbor that turns into a static
+        // route is taken over before the neighbor is removed
+        configureStaticRoutes(configuration.getStaticRoutes());
+        configureNeighbors(configuration);
+
+        // the neighbors of removed interfaces are gone by now
+        for(RouterInterface routerInterface : removedInterfaces) {
+            interfaces.remove(routerInterface);
+            routerInterface.close();
+        }
+        if(started) {
+            for(RouterInterface routerInterface : addedInterfaces) {
+                startListener(routerInterface);
+            }
+        }
+
+        prefixLimits = configuration.getPrefixLimits();
+        defaultPrefixLimit = configuration.getDefaultPrefixLimit();
+        routingTable.setMaxEntries(configuration.getMaxRoutes());
+
+        if(started) {
+            if(routingTable.isUpdated()) {
+                sendUpdate(RESPONSE);
+            }
+            configureDeletionClock();
+            routingTable.resetRoutingChangeFlags();
+        }
+    }
+
+    /**
+     * Add, change and remove neighbors so that they match the configuration.
+     *
+     * @param configuration the configuration to apply
+     */
+    private void configureNeighbors(RouterConfiguration configuration) {
+        Map<Integer, RoutingTableEntry> current = new HashMap<>();
+        for(RoutingTableEntry neighbor : neighbors) {
+            current.put(RouterConfiguration.toKey(neighbor.destination), neighbor);
+        }
+
+        for(RoutingTableEntry neighbor : configuration.getNeighbors()) {
+            RoutingTableEntry backup = current.remove(
+                    RouterConfiguration.toKey(neighbor.destination));
+            RouterInterface routerInterface = getInterface(
+                    configuration.getInterfaceOf(neighbor.destination));
+            if(backup == null) {
+                if(started) {
+                    // drop a stale entry left over from an earlier removal
+                    RoutingTableEntry stale
+                            = routingTable.getEntryByDestination(neighbor.destination);
+                    if(stale != null && !stale.staticRoute)
+                        routingTable.removeEntry(stale);
+                }
+                addNeighbor(routerInterface, neighbor.addressFamilyIdentifier,
+                        neighbor.routeTag, neighbor.destination,
+                        neighbor.subnetMask, neighbor.metric);
+                if(started)
+                    resetTimer(neighbor.destination);
+                continue;
+            }
+
+            RouterInterface previous = getInterfaceOf(neighbor.destination);
+            if(previous != routerInterface) {
+                previous.removeNeighbor(backup);
+                routerInterface.addNeighbor(backup);
+            }
+            if(backup.metric != neighbor.metric
+                    || !Arrays.equals(backup.subnetMask, neighbor.subnetMask)) {
+                backup.metric = neighbor.metric;
+                backup.subnetMask = neighbor.subnetMask;
+                RoutingTableEntry entry
+                        = routingTable.getEntryByDestination(neighbor.destination);
+                if(entry != null
+                        && Arrays.equals(entry.destination, entry.nextHop)) {
+                    entry.metric = neighbor.metric;
+                    entry.subnetMask = neighbor.subnetMask;
+                    entry.routeChangeFlag = true;
+                }
+            }
+        }
+
+        for(RoutingTableEntry neighbor : current.values()) {
+            removeNeighbor(neighbor);
+        }
+    }
+
+    /**
+     * Remove a neighbor and invalidate the routes through it, including the
+     * entry of the neighbor itself. The invalidated entries are deleted by
+     * deletion timers.
+     *
+     * @param neighbor the neighbor to be removed
+     */
+    private void removeNeighbor(RoutingTableEntry neighbor) {
+        getInterfaceOf(neighbor.destination).removeNeighbor(neighbor);
+        neighbors.remove(neighbor);
+        for(RoutingTableEntry entry : routingTable.getEntries()) {
+            if(Arrays.equals(entry.nextHop, neighbor.destination)
+                    && !entry.staticRoute && entry.metric < INF) {
+                if(entry.timer != null)
+                    entry.timer.cancel();
+                entry.metric = INF;
+                entry.routeChangeFlag = true;
+            }
+        }
+    }
+
+    /**
+     * Add, change and remove static routes so that they match the
+     * configuration.
+     *
+     * @param configured the static routes in the configuration
+     */
+    private void configureStaticRoutes(List<RoutingTableEntry> configured) {
+        Map<Integer, RoutingTableEntry> current = new HashMap<>(staticRoutes);
+        staticRoutes.clear();
+
+        for(RoutingTableEntry route : configured) {
+            Integer key = RouterConfiguration.toKey(route.destination);
+            RoutingTableEntry entry = current.remove(key);
+            if(entry == null) {
+                // a static route replaces whatever was learned for the
+                // destination. Before the start the table only holds the static
+                // routes added so far, which have distinct destinations, so
+                // there's nothing to look up.
+                entry = started
+                        ? routingTable.getEntryByDestination(route.destination)
+                        : null;
+                if(entry == null) {
+                    entry = route;
+                    routingTable.addEntry(entry);
+                } else {
+                    if(entry.timer != null)
+                        entry.timer.cancel();
+                    entry.timer = null;
+                    entry.subnetMask = route.subnetMask;
+                    entry.nextHop = route.nextHop;
+                    entry.metric = route.metric;
+                }
+                entry.staticRoute = true;
+                entry.routeChangeFlag = true;
+            } else if(entry.metric != route.metric
+                    || !Arrays.equals(entry.subnetMask, route.subnetMask)
+                    || !Arrays.equals(entry.nextHop, route.nextHop)) {
+                entry.subnetMask = route.subnetMask;
+                entry.nextHop = route.nextHop;
+                entry.metric = route.metric;
+                entry.routeChangeFlag = true;
+            }
+            staticRoutes.put(key, entry);
+        }
+
+        // advertise removed static routes as unreachable until they are deleted
+        for(RoutingTableEntry entry : current.values()) {
+            entry.staticRoute = false;
+            entry.metric = INF;
+            entry.routeChangeFlag = true;
+        }
+    }
+
+    /**
+     * Create an entry of a neighbor reached through the default interface.
      *
      * @param addressFamilyIdentifier
      * @param routingTag
@@ -66,6 +362,24 @@ public class RipRouter {
      */
     public void addNeighbor(short addressFamilyIdentifier, short routingTag,
                          byte[] destination, byte[] subnetMask, int metric) {
+        addNeighbor(getDefaultInterface(), addressFamilyIdentifier, routingTag,
+                destination, subnetMask, metric);
+    }
+
+    /**
+     * Create an entry of a neighbor in the table and put the neighbor information
+     * in the list for a future reference.
+     *
+     * @param routerInterface the interface the neighbor is reached through
+     * @param addressFamilyIdentifier
+     * @param routingTag
+     * @param destination
+     * @param subnetMask
+     * @param metric the cost of the network
+     */
+    private void addNeighbor(RouterInterface routerInterface,
+                             short addressFamilyIdentifier, short routingTag,
+                             byte[] destination, byte[] subnetMask, int metric) {
         // Let the first neighbor a default route
         RoutingTableEntry entry = new RoutingTableEntry();
         RoutingTableEntry backup = new RoutingTableEntry();
@@ -77,6 +391,7 @@ public class RipRouter {
         entry.nextHop = backup.nextHop = destination;
         entry.metric = backup.metric = metric;
         neighbors.add(backup);
+        routerInterface.addNeighbor(backup);
         routingTable.addEntry(entry);
     }
 
@@ -89,19 +404,104 @@ public class RipRouter {
         return routingTable;
     }
 
+    /**
+     * Return the first interface, creating one bound to all the local
+     * addresses if there's no interface yet.
+     *
+     * @return RouterInterface object
+     */
+    private RouterInterface getDefaultInterface() {
+        if(interfaces.isEmpty())
+            interfaces.add(new RouterInterface(RouterInterface.ANY_ADDRESS));
+        return interfaces.get(0);
+    }
+
     /**
      * Accessor
      *
-     * @return UDP socket
+     * @param address the local address of an interface
+     * @return RouterInterface object or null
      */
-    public DatagramSocket getSocket() { return socket; }
+    private RouterInterface getInterface(byte[] address) {
+        for(RouterInterface routerInterface : interfaces) {
+            if(Arrays.equals(routerInterface.getAddress(), address))
+                return routerInterface;
+        }
+        return null;
+    }
+
+    /**
+     * Return the interface a neighbor is reached through.
+     *
+     * @param hostAddress The IP address of a host
+     * @return RouterInterface object or null if the host is not a neighbor
+     */
+    private RouterInterface getInterfaceOf(byte[] hostAddress) {
+        for(RouterInterface routerInterface : interfaces) {
+            if(routerInterface.isNeighbor(hostAddress))
+                return routerInterface;
+        }
+        return null;
+    }
+
+    /**
+     * Return true if address belongs to this router otherwise return false.
+     * The wildcard interface stands for all the local addresses rather than
+     * for an address of its own, so 0.0.0.0 (a default route) is not local.
+     *
+     * @param address an IP address
+     * @return boolean value
+     */
+    private boolean isLocalAddress(byte[] address) {
+        if(Arrays.equals(localHostAddress, address))
+            return true;
+        if(Arrays.equals(RouterInterface.ANY_ADDRESS, address))
+            return false;
+        for(RouterInterface routerInterface : interfaces) {
+            if(Arrays.equals(routerInterface.getAddress(), address))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Accessor
+     *
+     * @return the update period in seconds
+     */
+    public int getUpdatePeriod() { return updatePeriod; }
 
     /**
      * Accessor
      *
-     * @return the list of the neighbors
+     * @return the expiration period in seconds
      */
-    private List<RoutingTableEntry> getNeighbors() { return neighbors; }
+    public int getExpirationPeriod() { return expirationPeriod; }
+
+    /**
+     * Accessor
+     *
+     * @return the deletion period in seconds
+     */
+    public int getDeletionPeriod() { return deletionPeriod; }
+
+    /**
+     * Accessor
+     *
+     * @return the number of routes rejected by the per-neighbor limits
+     */
+    public long getPrefixLimitRejections() { return prefixLimitRejections; }
+
+    /**
+     * Return the maximum number of routes that may be learned from a neighbor.
+     *
+     * @param neighbor the IP address of a neighbor
+     * @return the limit, 0 means no limit
+     */
+    private int getPrefixLimit(byte[] neighbor) {
+        Integer limit = prefixLimits.get(RouterConfiguration.toKey(neighbor));
+        return limit != null ? limit : defaultPrefixLimit;
+    }
 
     /**
      * Return true if hostAddress is a neighbor of this router otherwise return
@@ -111,22 +511,32 @@ public class RipRouter {
      * @return boolean valuse
      */
     private boolean isNeighbor(byte[] hostAddress) {
-        for(RoutingTableEntry neighbor : neighbors) {
-            if(Arrays.equals(neighbor.destination, hostAddress)) {
-                return true;
-            }
-        }
-        return false;
+        return getInterfaceOf(hostAddress) != null;
     }
 
     /**
-     * Send an update to all the neighbors.
+     * Send an update to all the neighbors. On a shared interface the packets
+     * are built once since every neighbor on it gets the same update. The
+     * timers call this too, so it holds the same lock as readUpdate and
+     * configure while it reads the routing table.
      *
      * @param command RIP command
      */
-    public void sendUpdate(byte command) {
-        for(RoutingTableEntry neighbor : getNeighbors()) {
-                sendUpdateTo(command, neighbor.destination, PORT);
+    public synchronized void sendUpdate(byte command) {
+        for(RouterInterface routerInterface : interfaces) {
+            if(routerInterface.getNeighbors().isEmpty())
+                continue;
+            List<byte[]> packets = routerInterface.isShared()
+                    ? routingTable.createPackets(command, routerInterface, null)
+                    : null;
+            for(RoutingTableEntry neighbor : routerInterface.getNeighbors()) {
+                if(routerInterface.isShared()) {
+                    send(routerInterface, packets, neighbor.destination, PORT);
+                } else {
+                    sendUpdateTo(command, routerInterface, neighbor.destination,
+                            PORT);
+                }
+            }
         }
     }
 
@@ -134,16 +544,34 @@ public class RipRouter {
      * Send an update to receiver.
      *
      * @param command RIP command
+     * @param routerInterface the interface the receiver is reached through
      * @param receiver the recipient of this update
      * @param port the port to send the update from
      */
-    private void sendUpdateTo(byte command, byte[] receiver, int port) {
-        byte[] buf = routingTable.createPacket(command, receiver);
+    private void sendUpdateTo(byte command, RouterInterface routerInterface,
+                              byte[] receiver, int port) {
+        send(routerInterface,
+                routingTable.createPackets(command, routerInterface, receiver),
+                receiver, port);
+    }
+
+    /**
+     * Send packets to receiver out of an interface.
+     *
+     * @param routerInterface the interface to send the packets out of
+     * @param packets data to be sent
+     * @param receiver the recipient of the packets
+     * @param port the port to send the packets to
+     */
+    private void send(RouterInterface routerInterface, List<byte[]> packets,
+                      byte[] receiver, int port) {
         try {
             InetAddress address = Inet4Address.getByAddress(receiver);
-             DatagramPacket packet = new DatagramPacket(buf, buf.length,
-                     address, port);
-            socket.send(packet);
+            for(byte[] buf : packets) {
+                DatagramPacket packet = new DatagramPacket(buf, buf.length,
+                        address, port);
+                routerInterface.getSocket().send(packet);
+            }
         } catch(Exception e) {
             e.printStackTrace();
         }
@@ -176,22 +604,40 @@ public class RipRouter {
             }
         }
 
+        int costToNextHop = routingTable.getEntryByDestination(sender).metric;
+        int prefixLimit = getPrefixLimit(sender);
+        int prefixCount = prefixLimit > 0 ? routingTable.countEntriesVia(sender) : 0;
+        int overLimit = 0;
+        int tableFull = 0;
+        long evicted = routingTable.getEvictedEntries();
+
         for( RoutingTableEntry entry : update.getEntries()) {
             RoutingTableEntry thisEntry
                     = routingTable.getEntryByDestination(entry.destination);
-            if(Arrays.equals(localHostAddress, entry.destination)) {
+            if(isLocalAddress(entry.destination)) {
                 // if the destination is this router, skip updating this entry
                 continue;
             }
-            int costToNextHop = routingTable.getEntryByDestination(sender).metric;
+            if(thisEntry != null && thisEntry.staticRoute) {
+                // static routes are only changed by the configuration
+                continue;
+            }
             if(thisEntry == null) {
                 // if the destination is not in the table and reachable,create
                 // a new entry
                 if(entry.metric < INF) {
+                    if(prefixLimit > 0 && prefixCount >= prefixLimit) {
+                        overLimit++;
+                        continue;
+                    }
                     entry.metric = entry.metric + costToNextHop;
                     entry.nextHop = sender;
                     entry.routeChangeFlag = true;
-                    routingTable.addEntry(entry);
+                    if(routingTable.addEntry(entry)) {
+                        prefixCount++;
+                    } else {
+                        tableFull++;
+                    }
                 }
             } else {
                 // the destination is already in the table
@@ -201,11 +647,26 @@ public class RipRouter {
                     /*if(thisEntry.metric != entry.metric + costToNextHop
                             && entry.metric <= INF)
                         thisEntry.routeChangeFlag = true;*/
+                    if(thisEntry.metric >= INF
+                            && entry.metric + costToNextHop < INF
+                            && !Arrays.equals(thisEntry.destination, sender)) {
+                        // a withdrawn route coming back counts again
+                        if(prefixLimit > 0 && prefixCount >= prefixLimit) {
+                            overLimit++;
+                            continue;
+                        }
+                        prefixCount++;
+                    }
                     thisEntry.routeChangeFlag = true;
                     thisEntry.metric = entry.metric + costToNextHop;
                 } else {
                     // otherwise update only if the cost is better
                     if(thisEntry.metric > entry.metric + costToNextHop) {
+                        if(prefixLimit > 0 && prefixCount >= prefixLimit) {
+                            overLimit++;
+                            continue;
+                        }
+                        prefixCount++;
                         thisEntry.nextHop = sender;
                         thisEntry.metric = entry.metric + costToNextHop;
                         thisEntry.routeChangeFlag = true;
@@ -215,6 +676,20 @@ public class RipRouter {
             if(thisEntry != null && thisEntry.metric > INF)
                 thisEntry.metric = INF;
         } // end for
+
+        prefixLimitRejections += overLimit;
+        evicted = routingTable.getEvictedEntries() - evicted;
+        if(overLimit > 0 || tableFull > 0 || evicted > 0) {
+            try {
+                System.out.println("Update from "
+                        + Inet4Address.getByAddress(sender).getHostAddress()
+                        + ": " + overLimit + " route(s) over the prefix limit, "
+                        + tableFull + " route(s) rejected by a full table, "
+                        + evicted + " route(s) evicted.");
+            } catch(UnknownHostException e) {
+                e.printStackTrace();
+            }
+        }
     } // end updateTable
 
     /**
@@ -225,15 +700,18 @@ public class RipRouter {
     /**
      * Analyze an update and take appropriate action.
      *
+     * @param routerInterface the interface the packet arrived on
      * @param header the header of an RIP packet
      * @param update the body of an RIP packet
      * @param sender the sender of the packet
      * @param senderPort the port from which the sender sent the packet
      */
-    public void readUpdate(byte[] header, RoutingTable update, byte[] sender,
-                           int senderPort) {
-        // if the update is not from any of the neighbors, drop the update
-        if(!isNeighbor(sender)) {
+    public synchronized void readUpdate(RouterInterface routerInterface,
+                                        byte[] header, RoutingTable update,
+                                        byte[] sender, int senderPort) {
+        // if the update is not from any of the neighbors on the interface,
+        // drop the update
+        if(!routerInterface.isNeighbor(sender)) {
             System.out.println("Received a packet from a non-neighbor.");
             try {
                 System.out.println("From " + Inet4Address.getByAddress(sender));
@@ -249,7 +727,7 @@ public class RipRouter {
 
         byte command = header[0];
         if(command == REQUEST) {
-            sendUpdateTo(RESPONSE, sender, senderPort);
+            sendUpdateTo(RESPONSE, routerInterface, sender, senderPort);
         }
 
         // triggered update
@@ -270,8 +748,12 @@ public class RipRouter {
      * Set an expiration timer to each neighbor entry.
      */
     private void setTimers() {
-        for(RoutingTableEntry neighbor : neighbors) {
-                resetTimer(neighbor.destination);
+        for(RoutingTableEntry entry : routingTable.getEntries()) {
+            if(isNeighbor(entry.destination)) {
+                if(entry.timer != null)
+                    entry.timer.cancel();
+                entry.timer = new ExpirationTimer(this, entry);
+            }
         }
     }
 
@@ -283,8 +765,8 @@ public class RipRouter {
      */
     private void resetTimer(byte[] hostAddress) {
         for(RoutingTableEntry entry : routingTable.getEntries()) {
-            if(isNeighbor(entry.destination)
-                    && Arrays.equals(entry.destination, hostAddress)) {
+            if(Arrays.equals(entry.destination, hostAddress)
+                    && isNeighbor(entry.destination)) {
                 if(entry.timer != null)
                     entry.timer.cancel();
                 entry.timer = new ExpirationTimer(this, entry);
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.net.UnknownHostException;
 import java.util.Scanner;
 import java.net.Inet4Address;
@@ -5,6 +6,12 @@ import java.net.Inet4Address;
 /**
  *  A user interface for the application.
  *
+ *  Usage: java RipRouterApplication [configuration file]
+ *
+ *  Without a configuration file the neighbors are read from the standard
+ *  input. With a configuration file, typing "reload" on the standard input
+ *  re-reads the file and applies the changes to the running router.
+ *
  *  @author Daichi Mae
  */
 public class RipRouterApplication {
@@ -13,6 +20,11 @@ public class RipRouterApplication {
     {
         RipRouter ripRouter = new RipRouter();
 
+        if(args.length > 0) {
+            runWithConfiguration(ripRouter, args[0]);
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
         System.out.print("Number of neighbors: ");
         int n = sc.nextInt();
@@ -42,6 +54,58 @@ public class RipRouterApplication {
         }
         sc.close();
 
-        ripRouter.start();
+        start(ripRouter);
+    }
+
+    /**
+     * Start the router or exit if it cannot be started.
+     *
+     * @param ripRouter the router to be started
+     */
+    private static void start(RipRouter ripRouter) {
+        try {
+            ripRouter.start();
+        } catch(IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Configure the router from a file, start it and reload the file on
+     * request.
+     *
+     * @param ripRouter the router to be configured
+     * @param fileName the path of the configuration file
+     */
+    private static void runWithConfiguration(RipRouter ripRouter,
+                                             String fileName) {
+        try {
+            ripRouter.configure(RouterConfiguration.load(fileName));
+        } catch(IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+
+        start(ripRouter);
+
+        Scanner sc = new Scanner(System.in);
+        while(sc.hasNextLine()) {
+            String command = sc.nextLine().trim();
+            if(command.equals("reload")) {
+                try {
+                    ripRouter.configure(RouterConfiguration.load(fileName));
+                    synchronized(ripRouter) {
+                        System.out.println(ripRouter.getRoutingTable());
+                    }
+                } catch(IOException e) {
+                    // keep running with the current configuration
+                    System.err.println(e.getMessage());
+                }
+            } else if(!command.isEmpty()) {
+                System.err.println("Unknown command: " + command);
+            }
+        }
+        sc.close();
     }
 }
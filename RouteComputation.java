@@ -0,0 +1,74 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Apply the updates received on all the interfaces to the routing table one
+ * at a time. The listeners only receive and parse packets, so the table is
+ * only changed from this thread and the timers.
+ *
+ * @author Daichi Mae
+ */
+public class RouteComputation extends Thread {
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private RipRouter ripRouter;
+    private BlockingQueue<ReceivedUpdate> updates
+            = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    public RouteComputation(RipRouter ripRouter) {
+        this.ripRouter = ripRouter;
+    }
+
+    /**
+     * Queue an update. Blocks while the queue is full.
+     *
+     * @param routerInterface the interface the update arrived on
+     * @param header the header of an RIP packet
+     * @param update the body of an RIP packet
+     * @param sender the sender of the packet
+     * @param senderPort the port from which the sender sent the packet
+     */
+    public void submit(RouterInterface routerInterface, byte[] header,
+                       RoutingTable update, byte[] sender, int senderPort) {
+        ReceivedUpdate receivedUpdate = new ReceivedUpdate();
+        receivedUpdate.routerInterface = routerInterface;
+        receivedUpdate.header = header;
+        receivedUpdate.update = update;
+        receivedUpdate.sender = sender;
+        receivedUpdate.senderPort = senderPort;
+        try {
+            updates.put(receivedUpdate);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Take updates from the queue and read them.
+     */
+    public void run() {
+        while(true) {
+            try {
+                ReceivedUpdate received = updates.take();
+                ripRouter.readUpdate(received.routerInterface, received.header,
+                        received.update, received.sender, received.senderPort);
+            } catch(InterruptedException e) {
+                return;
+            } catch(RuntimeException e) {
+                // one bad update must not stop the router
+                e.printStackTrace();
+            }
+        } // end while
+    } // end run
+
+    /**
+     * An update waiting to be read.
+     */
+    private static class ReceivedUpdate {
+        RouterInterface routerInterface;
+        byte[] header;
+        RoutingTable update;
+        byte[] sender;
+        int senderPort;
+    }
+}
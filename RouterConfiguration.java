@@ -0,0 +1,361 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A router configuration read from a file.
+ *
+ * The file is read line by line. Blank lines and anything after a '#' are
+ * ignored. Addresses must be written as dotted quads; no name resolution is
+ * done. The recognized directives are:
+ *
+ * <pre>
+ * interface  &lt;address&gt; [shared]
+ * neighbor   &lt;address&gt; &lt;subnet mask&gt; &lt;cost&gt; [&lt;max prefixes&gt;]
+ * route      &lt;destination&gt; &lt;subnet mask&gt; &lt;next hop&gt; &lt;cost&gt;
+ * update-period     &lt;seconds&gt;
+ * expiration-period &lt;seconds&gt;
+ * deletion-period   &lt;seconds&gt;
+ * max-routes        &lt;count&gt;
+ * max-prefixes      &lt;count&gt;
+ * </pre>
+ *
+ * A neighbor is reached through the interface declared last before it, or the
+ * first interface if it comes before any interface line. Without an interface
+ * line the router binds to all the local addresses. An interface marked shared
+ * is a single segment that all its neighbors are on; otherwise each neighbor
+ * is treated as a point-to-point link. The wildcard 0.0.0.0 cannot be shared.
+ * Interfaces can be added and removed by a reload; the sockets of removed
+ * interfaces, including the wildcard one used without an interface line, are
+ * closed before the new ones are bound.
+ *
+ * A route may not have a neighbor as its destination.
+ *
+ * max-routes bounds the size of the routing table and max-prefixes bounds the
+ * number of routes learned from each neighbor unless the neighbor line gives
+ * its own limit. A count of 0 means no limit, which is the default.
+ *
+ * @author Daichi Mae
+ */
+public class RouterConfiguration {
+    private List<byte[]> interfaces = new ArrayList<>();
+    private Set<Integer> sharedInterfaces = new HashSet<>();
+    private int updatePeriod = RipRouter.UPDATE_PERIOD;
+    private int expirationPeriod = RipRouter.EXPIRATION_PERIOD;
+    private int deletionPeriod = RipRouter.DELETION_PERIOD;
+    private int maxRoutes = 0;
+    private int defaultPrefixLimit = 0;
+
+    // keyed by destination so that a later line overrides an earlier one
+    private Map<Integer, RoutingTableEntry> neighbors = new LinkedHashMap<>();
+    private Map<Integer, RoutingTableEntry> staticRoutes = new LinkedHashMap<>();
+    private Map<Integer, Integer> prefixLimits = new HashMap<>();
+    // the interface address of each neighbor, null for the first interface
+    private Map<Integer, byte[]> neighborInterfaces = new HashMap<>();
+
+    /**
+     * Read a configuration file.
+     *
+     * @param fileName the path of the configuration file
+     * @return RouterConfiguration object
+     * @throws IOException if the file cannot be read or has a syntax error
+     */
+    public static RouterConfiguration load(String fileName) throws IOException {
+        RouterConfiguration configuration = new RouterConfiguration();
+        try(BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            int lineNumber = 0;
+            while((line = reader.readLine()) != null) {
+                lineNumber++;
+                try {
+                    configuration.parseLine(line);
+                } catch(IllegalArgumentException e) {
+                    throw new IOException(fileName + ":" + lineNumber + ": "
+                            + e.getMessage());
+                }
+            }
+        }
+        return configuration;
+    }
+
+    /**
+     * Apply a line of the configuration file.
+     *
+     * @param line a line of the configuration file
+     */
+    private void parseLine(String line) {
+        int comment = line.indexOf('#');
+        if(comment >= 0)
+            line = line.substring(0, comment);
+        line = line.trim();
+        if(line.isEmpty())
+            return;
+
+        String[] fields = line.split("\\s+");
+        switch(fields[0]) {
+            case "interface":
+                if(fields.length == 3 && !fields[2].equals("shared"))
+                    throw new IllegalArgumentException("unknown interface option: "
+                            + fields[2]);
+                if(fields.length != 3)
+                    expectFields(fields, 2);
+                byte[] address = parseAddress(fields[1]);
+                for(byte[] other : interfaces) {
+                    if(Arrays.equals(other, address))
+                        throw new IllegalArgumentException("duplicate interface: "
+                                + fields[1]);
+                }
+                interfaces.add(address);
+                if(fields.length == 3) {
+                    if(Arrays.equals(address, RouterInterface.ANY_ADDRESS))
+                        throw new IllegalArgumentException(
+                                "0.0.0.0 cannot be shared");
+                    sharedInterfaces.add(toKey(address));
+                }
+                break;
+            case "neighbor":
+                if(fields.length != 4 && fields.length != 5)
+                    throw new IllegalArgumentException(
+                            "neighbor takes 3 or 4 argument(s)");
+                byte[] neighbor = parseAddress(fields[1]);
+                if(staticRoutes.containsKey(toKey(neighbor)))
+                    throw new IllegalArgumentException("neighbor "
+                            + fields[1] + " is also a route destination");
+                neighbors.put(toKey(neighbor), createEntry(neighbor,
+                        parseAddress(fields[2]), neighbor, parseMetric(fields[3])));
+                neighborInterfaces.put(toKey(neighbor), interfaces.isEmpty()
+                        ? null : interfaces.get(interfaces.size() - 1));
+                if(fields.length == 5) {
+                    prefixLimits.put(toKey(neighbor), parseCount(fields[4]));
+                } else {
+                    prefixLimits.remove(toKey(neighbor));
+                }
+                break;
+            case "route":
+                expectFields(fields, 5);
+                byte[] destination = parseAddress(fields[1]);
+                if(neighbors.containsKey(toKey(destination)))
+                    throw new IllegalArgumentException("route destination "
+                            + fields[1] + " is also a neighbor");
+                staticRoutes.put(toKey(destination), createEntry(destination,
+                        parseAddress(fields[2]), parseAddress(fields[3]),
+                        parseMetric(fields[4])));
+                break;
+            case "update-period":
+                expectFields(fields, 2);
+                updatePeriod = parsePeriod(fields[1]);
+                break;
+            case "expiration-period":
+                expectFields(fields, 2);
+                expirationPeriod = parsePeriod(fields[1]);
+                break;
+            case "deletion-period":
+                expectFields(fields, 2);
+                deletionPeriod = parsePeriod(fields[1]);
+                break;
+            case "max-routes":
+                expectFields(fields, 2);
+                maxRoutes = parseCount(fields[1]);
+                break;
+            case "max-prefixes":
+                expectFields(fields, 2);
+                defaultPrefixLimit = parseCount(fields[1]);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown directive: "
+                        + fields[0]);
+        }
+    }
+
+    private static void expectFields(String[] fields, int count) {
+        if(fields.length != count)
+            throw new IllegalArgumentException(fields[0] + " takes "
+                    + (count - 1) + " argument(s)");
+    }
+
+    private static RoutingTableEntry createEntry(byte[] destination,
+                                                 byte[] subnetMask,
+                                                 byte[] nextHop, int metric) {
+        RoutingTableEntry entry = new RoutingTableEntry();
+        entry.addressFamilyIdentifier = RoutingTable.IPv4;
+        entry.routeTag = 0;
+        entry.destination = destination;
+        entry.subnetMask = subnetMask;
+        entry.nextHop = nextHop;
+        entry.metric = metric;
+        return entry;
+    }
+
+    private static int parseMetric(String field) {
+        int metric = parseInt(field);
+        if(metric < 1 || metric >= RipRouter.INF)
+            throw new IllegalArgumentException("cost out of range: " + field);
+        return metric;
+    }
+
+    private static int parsePeriod(String field) {
+        int period = parseInt(field);
+        if(period < 1)
+            throw new IllegalArgumentException("period must be positive: "
+                    + field);
+        return period;
+    }
+
+    private static int parseCount(String field) {
+        int count = parseInt(field);
+        if(count < 0)
+            throw new IllegalArgumentException("count must not be negative: "
+                    + field);
+        return count;
+    }
+
+    private static int parseInt(String field) {
+        try {
+            return Integer.parseInt(field);
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException("not a number: " + field);
+        }
+    }
+
+    /**
+     * Convert a dotted quad into an IPv4 address without resolving it.
+     *
+     * @param text an IPv4 address such as "192.168.0.1"
+     * @return the address in network byte order
+     */
+    public static byte[] parseAddress(String text) {
+        String[] octets = text.split("\\.", -1);
+        if(octets.length != 4)
+            throw new IllegalArgumentException("not an IPv4 address: " + text);
+        byte[] address = new byte[4];
+        for(int i = 0; i < address.length; i++) {
+            int octet;
+            try {
+                octet = Integer.parseInt(octets[i]);
+            } catch(NumberFormatException e) {
+                throw new IllegalArgumentException("not an IPv4 address: "
+                        + text);
+            }
+            if(octet < 0 || octet > 255)
+                throw new IllegalArgumentException("not an IPv4 address: "
+                        + text);
+            address[i] = (byte) octet;
+        }
+        return address;
+    }
+
+    /**
+     * Pack an IPv4 address into an int so that it can be used as a map key.
+     *
+     * @param address an IPv4 address
+     * @return the address as an Integer
+     */
+    static Integer toKey(byte[] address) {
+        return ((address[0] & 0xff) << 24) | ((address[1] & 0xff) << 16)
+                | ((address[2] & 0xff) << 8) | (address[3] & 0xff);
+    }
+
+    /**
+     * Accessor
+     *
+     * @return the addresses of the interfaces to bind to
+     */
+    public List<byte[]> getInterfaces() {
+        List<byte[]> addresses = new ArrayList<>(interfaces);
+        if(addresses.isEmpty())
+            addresses.add(RouterInterface.ANY_ADDRESS);
+        return addresses;
+    }
+
+    /**
+     * Return true if the interface is marked shared.
+     *
+     * @param address the address of an interface
+     * @return boolean value
+     */
+    public boolean isSharedInterface(byte[] address) {
+        return sharedInterfaces.contains(toKey(address));
+    }
+
+    /**
+     * Return the address of the interface a neighbor is reached through.
+     *
+     * @param neighbor the IP address of a neighbor
+     * @return the address of an interface
+     */
+    public byte[] getInterfaceOf(byte[] neighbor) {
+        byte[] address = neighborInterfaces.get(toKey(neighbor));
+        return address != null ? address : getInterfaces().get(0);
+    }
+
+    /**
+     * Accessor
+     *
+     * @return the update period in seconds
+     */
+    public int getUpdatePeriod() { return updatePeriod; }
+
+    /**
+     * Accessor
+     *
+     * @return the expiration period in seconds
+     */
+    public int getExpirationPeriod() { return expirationPeriod; }
+
+    /**
+     * Accessor
+     *
+     * @return the deletion period in seconds
+     */
+    public int getDeletionPeriod() { return deletionPeriod; }
+
+    /**
+     * Accessor
+     *
+     * @return the maximum number of routes, 0 means no limit
+     */
+    public int getMaxRoutes() { return maxRoutes; }
+
+    /**
+     * Accessor
+     *
+     * @return the number of routes a neighbor without its own limit may
+     *         announce, 0 means no limit
+     */
+    public int getDefaultPrefixLimit() { return defaultPrefixLimit; }
+
+    /**
+     * Accessor
+     *
+     * @return the per-neighbor route limits keyed by neighbor
+     */
+    public Map<Integer, Integer> getPrefixLimits() {
+        return new HashMap<>(prefixLimits);
+    }
+
+    /**
+     * Accessor
+     *
+     * @return the neighbors in the order they appear in the file
+     */
+    public List<RoutingTableEntry> getNeighbors() {
+        return new ArrayList<>(neighbors.values());
+    }
+
+    /**
+     * Accessor
+     *
+     * @return the static routes in the order they appear in the file
+     */
+    public List<RoutingTableEntry> getStaticRoutes() {
+        return new ArrayList<>(staticRoutes.values());
+    }
+}
@@ -0,0 +1,125 @@
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.SocketException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A local address the router is bound to and the neighbors reached through
+ * it. The address 0.0.0.0 stands for all the local addresses.
+ *
+ * A shared interface is attached to a single segment that all its neighbors
+ * are on, so split horizon applies to the interface as a whole. Otherwise
+ * each neighbor is treated as a point-to-point link of its own.
+ *
+ * @author Daichi Mae
+ */
+public class RouterInterface {
+    static final byte[] ANY_ADDRESS = {0, 0, 0, 0};
+
+    private byte[] address;
+    private DatagramSocket socket = null;
+    private boolean shared = false;
+
+    private List<RoutingTableEntry> neighbors = new CopyOnWriteArrayList<>();
+    private Set<Integer> neighborAddresses = ConcurrentHashMap.newKeySet();
+
+    public RouterInterface(byte[] address) {
+        this.address = address;
+    }
+
+    /**
+     * Bind a UDP socket to the address of this interface.
+     *
+     * @param port the port to bind to
+     * @throws IOException if the socket cannot be bound
+     */
+    public void open(int port) throws IOException {
+        InetAddress localAddress = Inet4Address.getByAddress(address);
+        try {
+            socket = new DatagramSocket(port, localAddress);
+        } catch(SocketException e) {
+            throw new SocketException("Cannot bind "
+                    + localAddress.getHostAddress() + ":" + port + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Close the socket, which also stops the listener of this interface.
+     */
+    public void close() {
+        if(socket != null)
+            socket.close();
+    }
+
+    /**
+     * Add a neighbor reached through this interface.
+     *
+     * @param neighbor the neighbor entry
+     */
+    public void addNeighbor(RoutingTableEntry neighbor) {
+        neighbors.add(neighbor);
+        neighborAddresses.add(RouterConfiguration.toKey(neighbor.destination));
+    }
+
+    /**
+     * Remove a neighbor from this interface.
+     *
+     * @param neighbor the neighbor entry
+     */
+    public void removeNeighbor(RoutingTableEntry neighbor) {
+        neighbors.remove(neighbor);
+        neighborAddresses.remove(RouterConfiguration.toKey(neighbor.destination));
+    }
+
+    /**
+     * Return true if hostAddress is a neighbor on this interface otherwise
+     * return false.
+     *
+     * @param hostAddress The IP address of a host
+     * @return boolean value
+     */
+    public boolean isNeighbor(byte[] hostAddress) {
+        return neighborAddresses.contains(RouterConfiguration.toKey(hostAddress));
+    }
+
+    /**
+     * Accessor
+     *
+     * @return the local address of this interface
+     */
+    public byte[] getAddress() { return address; }
+
+    /**
+     * Accessor
+     *
+     * @return true if all the neighbors are on a single segment
+     */
+    public boolean isShared() { return shared; }
+
+    /**
+     * Mutator
+     *
+     * @param shared true if all the neighbors are on a single segment
+     */
+    public void setShared(boolean shared) { this.shared = shared; }
+
+    /**
+     * Accessor
+     *
+     * @return UDP socket
+     */
+    public DatagramSocket getSocket() { return socket; }
+
+    /**
+     * Accessor
+     *
+     * @return the list of the neighbors on this interface
+     */
+    public List<RoutingTableEntry> getNeighbors() { return neighbors; }
+}
@@ -15,8 +15,19 @@ import static java.lang.Math.pow;
  */
 public class RoutingTable {
     static final short IPv4 = 1;
+
+    // an RIP message carries at most 25 entries
+    static final int MAX_ENTRIES_PER_PACKET = 25;
     private List<RoutingTableEntry> routingTableEntries = new ArrayList<>();
 
+    // the maximum number of entries, 0 means no limit
+    private int maxEntries = 0;
+    private long rejectedEntries = 0;
+    private long evictedEntries = 0;
+
+    // evicted entries still to be advertised as unreachable
+    private List<RoutingTableEntry> withdrawnEntries = new ArrayList<>();
+
     /**
      * Add an entry to the routing table.
      *
@@ -26,8 +37,9 @@ public class RoutingTable {
      * @param subnetMask
      * @param nextHop
      * @param metric the cost of the network
+     * @return true if the entry was added
      */
-    public void addEntry(short addressFamilyIdentifier, short routingTag,
+    public boolean addEntry(short addressFamilyIdentifier, short routingTag,
                          byte[] destination, byte[] subnetMask, byte[] nextHop,
                          int metric) {
         RoutingTableEntry entry = new RoutingTableEntry();
@@ -38,18 +50,146 @@ public class RoutingTable {
         entry.subnetMask = subnetMask;
         entry.nextHop = nextHop;
         entry.metric = metric;
-        routingTableEntries.add(entry);
+        return addEntry(entry);
     }
 
     /**
-     *  Add an entry to the routing table.
+     *  Add an entry to the routing table. If the table is full, the least
+     *  preferred learned entry is evicted to make room when the new entry is
+     *  preferred over it; otherwise the new entry is rejected. Directly
+     *  connected and static entries are always added.
      *
      * @param entry
+     * @return true if the entry was added
      */
-    public void addEntry(RoutingTableEntry entry) {
+    public boolean addEntry(RoutingTableEntry entry) {
+        if(maxEntries > 0 && routingTableEntries.size() >= maxEntries) {
+            RoutingTableEntry victim = getLeastPreferredEntry();
+            if(isEvictable(entry) && (victim == null
+                    || victim.metric <= entry.metric)) {
+                rejectedEntries++;
+                return false;
+            }
+            if(victim != null)
+                evictEntry(victim);
+        }
+        // a destination that comes back must not be withdrawn after it
+        withdrawnEntries.removeIf(
+                withdrawn -> Arrays.equals(withdrawn.destination, entry.destination));
         routingTableEntries.add(entry);
+        return true;
+    }
+
+    /**
+     * Remove an entry to make room and keep it aside so that the next update
+     * advertises it as unreachable. Otherwise the routers downstream would keep
+     * the route, since learned routes only time out with their next hop.
+     *
+     * @param entry
+     */
+    private void evictEntry(RoutingTableEntry entry) {
+        removeEntry(entry);
+        entry.metric = RipRouter.INF;
+        entry.routeChangeFlag = true;
+        withdrawnEntries.add(entry);
+        evictedEntries++;
+    }
+
+    /**
+     * Remove an entry and stop its timer.
+     *
+     * @param entry
+     */
+    public void removeEntry(RoutingTableEntry entry) {
+        if(entry.timer != null)
+            entry.timer.cancel();
+        routingTableEntries.remove(entry);
     }
 
+    /**
+     * Return true if an entry may be evicted, that is, the entry was learned
+     * from a neighbor rather than configured.
+     *
+     * @param entry
+     * @return boolean value
+     */
+    private static boolean isEvictable(RoutingTableEntry entry) {
+        return !entry.staticRoute
+                && !Arrays.equals(entry.destination, entry.nextHop);
+    }
+
+    /**
+     * Find the learned entry with the largest metric.
+     *
+     * @return Entry object or null if there's no learned entry
+     */
+    private RoutingTableEntry getLeastPreferredEntry() {
+        RoutingTableEntry leastPreferred = null;
+        for(RoutingTableEntry entry : routingTableEntries) {
+            if(isEvictable(entry) && (leastPreferred == null
+                    || entry.metric > leastPreferred.metric)) {
+                leastPreferred = entry;
+            }
+        }
+        return leastPreferred;
+    }
+
+    /**
+     * Count the valid learned entries whose next hop is nextHop. Entries that
+     * became unreachable and wait for their deletion timers are not counted.
+     *
+     * @param nextHop
+     * @return the number of entries
+     */
+    public int countEntriesVia(byte[] nextHop) {
+        int count = 0;
+        for(RoutingTableEntry entry : routingTableEntries) {
+            if(isEvictable(entry) && entry.metric < RipRouter.INF
+                    && Arrays.equals(entry.nextHop, nextHop))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Set the maximum number of entries and evict the least preferred learned
+     * entries until the table fits.
+     *
+     * @param maxEntries the maximum number of entries, 0 means no limit
+     */
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        if(maxEntries == 0)
+            return;
+        while(routingTableEntries.size() > maxEntries) {
+            RoutingTableEntry victim = getLeastPreferredEntry();
+            if(victim == null)
+                break;
+            evictEntry(victim);
+        }
+    }
+
+    /**
+     * Accessor
+     *
+     * @return the maximum number of entries, 0 means no limit
+     */
+    public int getMaxEntries() { return maxEntries; }
+
+    /**
+     * Accessor
+     *
+     * @return the number of entries rejected because the table was full
+     */
+    public long getRejectedEntries() { return rejectedEntries; }
+
+    /**
+     * Accessor
+     *
+     * @return the number of entries evicted to make room for better ones
+     */
+    public long getEvictedEntries() { return evictedEntries; }
+
     /**
      * Accessor
      *
@@ -74,11 +214,14 @@ public class RoutingTable {
     }
 
     /**
-     * Return true if there's any routeChangeFlag up otherwise return false.
+     * Return true if there's any routeChangeFlag up or any evicted entry that
+     * hasn't been advertised otherwise return false.
      *
      * @return
      */
     public boolean isUpdated() {
+        if(!withdrawnEntries.isEmpty())
+            return true;
         for (RoutingTableEntry entry : routingTableEntries) {
             if(entry.routeChangeFlag)
                 return true;
@@ -87,25 +230,64 @@ public class RoutingTable {
     }
 
     /**
-     * Get all the routeChangeFlags down.
+     * Get all the routeChangeFlags down and forget the evicted entries, which
+     * have been advertised by now.
      *
      */
     public void resetRoutingChangeFlags() {
+        withdrawnEntries.clear();
         for (RoutingTableEntry entry : routingTableEntries) {
             entry.routeChangeFlag = false;
         }
     }
 
+    /**
+     * Create the byte arrays that the DatagramPacket class uses to create UDP
+     * packets sent out of an interface. Uses split horizon with poisoned
+     * reverse. On a shared interface every neighbor is on the same segment,
+     * so routes learned from any neighbor on the interface are advertised as
+     * unreachable and receiver is ignored. On any other interface, including
+     * the one bound to all the local addresses, the neighbors are treated as
+     * separate links and only the routes learned from receiver are poisoned.
+     * Evicted entries that haven't been advertised yet are included with
+     * metric INF. The table is split into packets of at most
+     * MAX_ENTRIES_PER_PACKET entries.
+     *
+     * @param command RIP command
+     * @param routerInterface the interface the packets are sent out of
+     * @param receiver the receiver of the packets, null on a shared interface
+     * @return data to be sent
+     */
+    public List<byte[]> createPackets(byte command,
+                                      RouterInterface routerInterface,
+                                      byte[] receiver) {
+        List<byte[]> packets = new ArrayList<>();
+        List<RoutingTableEntry> entries = new ArrayList<>(routingTableEntries);
+        entries.addAll(withdrawnEntries);
+        int offset = 0;
+        do {
+            int count = Math.min(MAX_ENTRIES_PER_PACKET, entries.size() - offset);
+            packets.add(createPacket(command, routerInterface, receiver,
+                    entries.subList(offset, offset + count)));
+            offset += count;
+        } while(offset < entries.size());
+        return packets;
+    }
+
     /**
      * Create a byte array that the DatagramPacket class uses to create a UDP
-     * packet. Uses split horizon with poisoned reverse.
+     * packet.
      *
      * @param command RIP command
+     * @param routerInterface the interface the packet is sent out of
      * @param receiver the receiver of the packet
+     * @param entries the entries to be put in the packet
      * @return data to be sent
      */
-    public byte[] createPacket(byte command, byte[] receiver) {
-        ByteBuffer bb = ByteBuffer.allocate(4 + (routingTableEntries.size() * 20));
+    private byte[] createPacket(byte command, RouterInterface routerInterface,
+                                byte[] receiver,
+                                List<RoutingTableEntry> entries) {
+        ByteBuffer bb = ByteBuffer.allocate(4 + (entries.size() * 20));
 
         // header
         bb.put(command);
@@ -113,13 +295,16 @@ public class RoutingTable {
         bb.putShort((short) 0); // must be zero
 
         // entries
-        for(RoutingTableEntry entry : routingTableEntries) {
+        for(RoutingTableEntry entry : entries) {
             bb.putShort(entry.addressFamilyIdentifier);
             bb.putShort(entry.routeTag);
             bb.put(entry.destination);
             bb.put(entry.subnetMask);
             bb.put(entry.nextHop);
-            if(Arrays.equals(receiver, entry.nextHop)
+            boolean learnedHere = routerInterface.isShared()
+                    ? routerInterface.isNeighbor(entry.nextHop)
+                    : Arrays.equals(receiver, entry.nextHop);
+            if(learnedHere
                     && !Arrays.equals(entry.destination, entry.nextHop)) {
                 bb.putInt(RipRouter.INF); // poison the entry
             } else {
@@ -13,5 +13,6 @@ public class RoutingTableEntry {
     public byte[] nextHop;
     public int metric;
     public boolean routeChangeFlag = false;
+    public boolean staticRoute = false;
     public Timer timer = null;
 }
@@ -1,37 +1,45 @@
 import java.io.IOException;
 import java.net.DatagramPacket;
+import java.net.DatagramSocket;
 import java.util.Arrays;
 
 /**
- * Receive updates.
+ * Receive updates on an interface and pass them to the route computation.
  *
  * @author Daichi Mae
  */
 public class UpdateListener extends Thread {
-    private RipRouter ripRouter;
+    private RouterInterface routerInterface;
+    private RouteComputation routeComputation;
 
-    public UpdateListener(RipRouter ripRouter) {
-        this.ripRouter = ripRouter;
+    public UpdateListener(RouterInterface routerInterface,
+                          RouteComputation routeComputation) {
+        this.routerInterface = routerInterface;
+        this.routeComputation = routeComputation;
     }
 
     /**
-     * Receive an RIP packet and read it.
+     * Receive an RIP packet and read it until the socket is closed.
      */
     public void run() {
-        while(true) {
+        DatagramSocket socket = routerInterface.getSocket();
+        if(socket == null)
+            return;
+        byte[] buf = new byte[512];
+        while(!socket.isClosed()) {
             try {
-                byte[] buf = new byte[512];
                 DatagramPacket packet = new DatagramPacket(buf, buf.length);
-                ripRouter.getSocket().receive(packet);
+                socket.receive(packet);
 
                 byte[] sender = packet.getAddress().getAddress();
                 int senderPort = packet.getPort();
                 byte[] header = Arrays.copyOfRange(buf, 0, 4);
 
-                ripRouter.readUpdate(header, RoutingTable.createTable(packet),
-                        sender, senderPort);
+                routeComputation.submit(routerInterface, header,
+                        RoutingTable.createTable(packet), sender, senderPort);
             } catch (IOException e) {
-                e.printStackTrace();
+                if(!socket.isClosed())
+                    e.printStackTrace();
             }
         } // end while
     } // end run